@@ -31,6 +31,9 @@
 # Change to False, to remove debug logs
 DEBUG = False 
 
+# JMH class whose variants are compared in the plots
+BENCH_CLASS = "CountSquaresBench"
+
 
 @dataclass(frozen=True)
 class Row:
@@ -73,6 +76,10 @@ def main() -> int:
 
     for item in data:
         benchmark = item["benchmark"]
+        # Only the engine comparison is plotted; other suites
+        # (e.g. PrimitiveLongHashSetSnapshotBench) are skipped.
+        if benchmark.split(".")[-2] != BENCH_CLASS:
+            continue
         variant = benchmark.split(".")[-1]
         dist = item["params"]["dist"]
         try:
@@ -30,6 +30,11 @@
 }
 
 jmh {
+    // Only the engine comparison runs by default; pass e.g.
+    // -PjmhIncludes=PrimitiveLongHashSetSnapshotBench to run another suite.
+    includes.set(listOf(providers.gradleProperty("jmhIncludes")
+        .getOrElse("CountSquaresBench")))
+
     timeUnit.set("us")
     profilers.add("gc")
 
@@ -31,6 +31,8 @@ public class CountSquaresBench {
     private final CountSquaresLongSet longSet = new CountSquaresLongSet();
     private final CountSquaresPrimitiveLongSet primitiveLongSet =
             new CountSquaresPrimitiveLongSet();
+    private final CountSquaresRankCompressed rankCompressed =
+            new CountSquaresRankCompressed();
 
     @Setup(Level.Trial)
     public void setup() {
@@ -58,6 +60,11 @@ public int primitiveLongSet() {
         return primitiveLongSet.countSquares(points);
     }
 
+    @Benchmark
+    public int rankCompressed() {
+        return rankCompressed.countSquares(points);
+    }
+
     /**
      * Generates a deterministic grid of points laid out in row-major order.
      * <p>
@@ -0,0 +1,110 @@
+package com.priyakdey;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup latency of answering a batch of lookups: rebuilding a
+ * {@link PrimitiveLongHashSet} from {@code int[][]} versus mapping a
+ * {@link PrimitiveLongHashSetSnapshot} written ahead of time.
+ * <p>
+ * Each invocation obtains the set and then answers the same batch of
+ * {@value #PROBES} probes, so the mapped side pays for the page faults its
+ * probes trigger. The probes are candidate corners of random point pairs, i.e.
+ * the mix of hits and misses the engines actually issue.
+ * <p>
+ * The snapshot file is written once per trial and stays in the OS page cache,
+ * so this measures JVM-side startup, not reads from disk.
+ * <p>
+ * Not part of the default {@code jmh} run; use {@code make jmh-snapshot}.
+ *
+ * @author Priyak Dey
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Thread)
+@Threads(1)
+public class PrimitiveLongHashSetSnapshotBench {
+
+    private static final int PROBES = 1 << 16;
+
+    @Param({"1024", "16384", "262144", "1048576", "4194304"})
+    public int n;
+
+    @Param({"RANDOM", "GRID"})
+    public String dist;
+
+    private int[][] points;
+    private long[] probes;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        points = "GRID".equals(dist) ? CountSquaresBench.genGrid(n) :
+                CountSquaresBench.genRandomUnique(n, 2048, 42);
+        probes = genProbes(points, 7);
+
+        file = Files.createTempFile("count-squares-", ".snapshot");
+        PrimitiveLongHashSetSnapshot.write(
+                CountSquaresPrimitiveLongSet.buildSet(points), file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int rebuild() {
+        return probe(CountSquaresPrimitiveLongSet.buildSet(points), probes);
+    }
+
+    @Benchmark
+    public int mapSnapshot() throws IOException {
+        return probe(PrimitiveLongHashSetSnapshot.load(file), probes);
+    }
+
+    /**
+     * Counts how many of {@code probes} are present in {@code set}.
+     *
+     * @param set    set to probe
+     * @param probes packed, scaled keys to look up
+     * @return number of hits
+     */
+    private static int probe(LongKeyLookup set, long[] probes) {
+        int hits = 0;
+        for (long key : probes) {
+            if (set.contains(key)) hits++;
+        }
+        return hits;
+    }
+
+    /**
+     * Generates {@value #PROBES} lookup keys as the engines would: the first
+     * rotated corner of a random diagonal {@code (points[i], points[j])}.
+     *
+     * @param points array of points where {@code points[i] = {x, y}}
+     * @param seed   random seed for reproducibility
+     * @return packed, scaled candidate corner keys
+     */
+    private static long[] genProbes(int[][] points, long seed) {
+        Random r = new Random(seed);
+        long[] keys = new long[PROBES];
+        for (int k = 0; k < PROBES; k++) {
+            int[] p1 = points[r.nextInt(points.length)];
+            int[] p2 = points[r.nextInt(points.length)];
+            long x3 = ((long) p1[0] + p2[0]) + ((long) p1[1] - p2[1]);
+            long y3 = ((long) p1[1] + p2[1]) + ((long) p2[0] - p1[0]);
+            keys[k] = (x3 << 32) ^ (y3 & 0xFFFFFFFFL);
+        }
+        return keys;
+    }
+}
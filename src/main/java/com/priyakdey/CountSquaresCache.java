@@ -0,0 +1,273 @@
+package com.priyakdey;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * A thread-safe, content-addressed result cache in front of any
+ * {@code countSquares} engine.
+ * <p>
+ * The number of squares depends only on the <em>set</em> of points, not on
+ * their order, so results are keyed on an order-independent fingerprint of the
+ * packed point keys. The fingerprint is computed in a single {@code O(n)} pass
+ * by summing two independently mixed 64-bit lanes over all keys; since addition
+ * is commutative, any permutation of the same points maps to the same entry.
+ * A cache hit therefore costs {@code O(n)} instead of the engine's {@code O(n^2)}.
+ * <p>
+ * <strong>Eviction:</strong> entries are held in an access-ordered map bounded
+ * to {@code maxEntries} (least recently used evicted first) and expire
+ * {@code ttl} after they were computed.
+ * <p>
+ * <strong>Coalescing:</strong> concurrent misses on the same fingerprint share a
+ * single in-flight computation; only the first caller runs the engine and the
+ * others wait for its result. A failed computation is propagated to all waiters
+ * and is not cached.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * CountSquaresPrimitiveLongSet engine = new CountSquaresPrimitiveLongSet();
+ * CountSquaresCache cache = new CountSquaresCache(engine::countSquares,
+ *         10_000, Duration.ofMinutes(30));
+ * int squares = cache.countSquares(points);
+ * }</pre>
+ *
+ * @author Priyak Dey
+ */
+public final class CountSquaresCache {
+
+    private final ToIntFunction<int[][]> engine;
+    private final long ttlNanos;
+
+    private final Map<Fingerprint, Entry> entries;
+    private final ConcurrentHashMap<Fingerprint, CompletableFuture<Integer>> inFlight =
+            new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache in front of {@code engine}.
+     *
+     * @param engine     the function computing the number of squares on a miss
+     * @param maxEntries maximum number of cached results; must be positive
+     * @param ttl        time after which a cached result expires; must be positive
+     * @throws IllegalArgumentException if {@code maxEntries} or {@code ttl} is not positive
+     */
+    public CountSquaresCache(ToIntFunction<int[][]> engine, int maxEntries, Duration ttl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        this.engine = engine;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Fingerprint, Entry> eldest) {
+                if (size() <= maxEntries) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of distinct squares that can be formed using the
+     * provided points, from the cache if an unexpired result for the same point
+     * set is present.
+     *
+     * @param points array of points where {@code points[i] = {x, y}}
+     * @return number of distinct squares
+     */
+    public int countSquares(int[][] points) {
+        Fingerprint fp = fingerprint(points);
+
+        Integer cached = lookup(fp);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<Integer> mine = new CompletableFuture<>();
+        CompletableFuture<Integer> running = inFlight.putIfAbsent(fp, mine);
+        if (running != null) return await(running);
+
+        try {
+            // NOTE: the previous owner stores its result before leaving
+            // inFlight, so it may have completed since our first lookup.
+            Integer stored = lookup(fp);
+            int result = stored != null ? stored : engine.applyAsInt(points);
+            if (stored == null) store(fp, result);
+            mine.complete(result);
+            return result;
+        } catch (Throwable t) {
+            // NOTE: catch everything, including checked exceptions sneaky-thrown
+            // by a method-reference engine, so waiters are never left hanging.
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(fp, mine);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the cache metrics.
+     * <p>
+     * Callers that joined an in-flight computation are counted as misses.
+     * Evictions include both capacity evictions and expired entries.
+     *
+     * @return current hit, miss and eviction counts and cache size
+     */
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    /**
+     * Removes all cached results. In-flight computations are not affected.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the cached result for {@code fp}, dropping it if it has expired.
+     *
+     * @param fp fingerprint of the point set
+     * @return the cached result, or {@code null} if absent or expired
+     */
+    private Integer lookup(Fingerprint fp) {
+        synchronized (entries) {
+            Entry e = entries.get(fp);
+            if (e == null) return null;
+            if (System.nanoTime() - e.expiresAt() >= 0) {
+                entries.remove(fp);
+                evictions.increment();
+                return null;
+            }
+            return e.squares();
+        }
+    }
+
+    /**
+     * Caches {@code squares} for {@code fp}, evicting the least recently used
+     * entry if the cache is full.
+     *
+     * @param fp      fingerprint of the point set
+     * @param squares computed number of squares
+     */
+    private void store(Fingerprint fp, int squares) {
+        Entry e = new Entry(squares, System.nanoTime() + ttlNanos);
+        synchronized (entries) {
+            entries.put(fp, e);
+        }
+    }
+
+    /**
+     * Waits for a computation started by another caller, rethrowing its failure
+     * unwrapped. A checked cause stays wrapped in the {@link CompletionException}.
+     *
+     * @param running the in-flight computation
+     * @return its result
+     */
+    private static int await(CompletableFuture<Integer> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    /**
+     * Computes an order-independent fingerprint of {@code points} in one pass.
+     * <p>
+     * Each point is packed into a {@code long} key and fed through two
+     * differently seeded mixers whose outputs are summed. The result is a
+     * 128-bit multiset hash plus the point count.
+     *
+     * @param points array of points where {@code points[i] = {x, y}}
+     * @return fingerprint of the point set
+     */
+    static Fingerprint fingerprint(int[][] points) {
+        long lo = 0, hi = 0;
+        for (int[] p : points) {
+            long key = key(p[0], p[1]);
+            lo += mix64(key);
+            hi += mix64(key ^ 0x9E3779B97F4A7C15L);
+        }
+        return new Fingerprint(lo, hi, points.length);
+    }
+
+    /**
+     * Packs two signed 32-bit integer coordinates into a single 64-bit key.
+     *
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @return packed {@code long} key representing the point
+     */
+    private static long key(long x, long y) {
+        return (x << 32) ^ (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * MurmurHash3 {@code fmix64} finalizer.
+     *
+     * @param z 64-bit input value
+     * @return mixed 64-bit value
+     */
+    private static long mix64(long z) {
+        z ^= (z >>> 33);
+        z *= 0xff51afd7ed558ccdL;
+        z ^= (z >>> 33);
+        z *= 0xc4ceb9fe1a85ec53L;
+        z ^= (z >>> 33);
+        return z;
+    }
+
+    /**
+     * Cache metrics at a point in time.
+     *
+     * @param hits      lookups answered from the cache
+     * @param misses    lookups that computed or waited for a computation
+     * @param evictions entries removed due to capacity or expiry
+     * @param size      number of entries currently cached
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    /**
+     * Order-independent identity of a point set.
+     *
+     * @param lo    first mixed lane sum
+     * @param hi    second mixed lane sum
+     * @param count number of points
+     */
+    record Fingerprint(long lo, long hi, int count) {
+    }
+
+    /**
+     * A cached result and the {@link System#nanoTime()} at which it expires.
+     *
+     * @param squares   number of squares
+     * @param expiresAt expiry deadline in nanoseconds
+     */
+    private record Entry(int squares, long expiresAt) {
+    }
+}
@@ -1,5 +1,10 @@
 package com.priyakdey;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
 /**
  * Counts the number of (axis-aligned or rotated) squares that can be formed
  * from a set of 2D integer points.
@@ -23,6 +28,16 @@
  * <p>
  * <strong>Time Complexity:</strong> {@code O(n^2)} expected (hash lookups).<br>
  * <strong>Space Complexity:</strong> {@code O(n)}.
+ * <p>
+ * For very large inputs the scan can be made resumable with
+ * {@link #countSquares(int[][], Path, Duration)}, which periodically persists a
+ * {@link ScanCheckpoint} and continues from it on the next run.
+ * <p>
+ * For large, unchanging point clouds the set can be built once with
+ * {@link #buildSet(int[][])}, persisted with
+ * {@link PrimitiveLongHashSetSnapshot#write(PrimitiveLongHashSet, java.nio.file.Path)}
+ * and passed back to {@link #countSquares(int[][], PrimitiveLongHashSetSnapshot)},
+ * which skips the build entirely.
  *
  * @author Priyak Dey
  */
@@ -38,35 +53,165 @@ public class CountSquaresPrimitiveLongSet {
     public int countSquares(int[][] points) {
         int length = points.length;
 
-        PrimitiveLongHashSet set = new PrimitiveLongHashSet(length * 2);
+        PrimitiveLongHashSet set = buildSet(points);
+
+        long count = 0;
+
+        for (int i = 0; i < length - 1; i++) {
+            count += scanRow(points, set, i);
+        }
+
+        return (int) (count / 2);
+    }
+
+    /**
+     * Returns the number of distinct squares that can be formed using the
+     * provided points, probing a previously persisted point set instead of
+     * building one.
+     * <p>
+     * {@code snapshot} must have been written from {@link #buildSet(int[][])}
+     * over the same (distinct) points. This is checked in {@code O(n)} against
+     * the key fingerprint stored in the snapshot header before scanning.
+     *
+     * @param points   array of points where {@code points[i] = {x, y}}
+     * @param snapshot mapped set of the packed, scaled point keys
+     * @return number of distinct squares
+     * @throws IllegalStateException if {@code snapshot} was taken over
+     *                               different points
+     */
+    public int countSquares(int[][] points, PrimitiveLongHashSetSnapshot snapshot) {
+        int length = points.length;
 
+        long lo = 0, hi = 0;
         for (int[] p : points) {
-            set.add(key(2L * p[0], 2L * p[1]));
+            long k = key(2L * p[0], 2L * p[1]);
+            lo += PrimitiveLongHashSetSnapshot.Fingerprint.mixLo(k);
+            hi += PrimitiveLongHashSetSnapshot.Fingerprint.mixHi(k);
+        }
+        if (!snapshot.matches(new PrimitiveLongHashSetSnapshot.Fingerprint(lo, hi), length)) {
+            throw new IllegalStateException("snapshot does not match the input points");
         }
 
         long count = 0;
 
         for (int i = 0; i < length - 1; i++) {
-            long x1 = points[i][0], y1 = points[i][1];
-            for (int j = i + 1; j < length; j++) {
-                long x2 = points[j][0], y2 = points[j][1];
+            count += scanRow(points, snapshot, i);
+        }
 
-                long x3 = (x1 + x2) + (y1 - y2);
-                long y3 = (y1 + y2) + (x2 - x1);
+        return (int) (count / 2);
+    }
 
-                long x4 = (x1 + x2) - (y1 - y2);
-                long y4 = (y1 + y2) - (x2 - x1);
+    /**
+     * Returns the number of distinct squares that can be formed using the
+     * provided points, persisting progress to {@code checkpointFile}.
+     * <p>
+     * If {@code checkpointFile} exists, the scan resumes from the outer index
+     * recorded in it instead of from {@code i = 0}. After every completed outer
+     * index, once at least {@code interval} has elapsed since the last write, a
+     * fresh checkpoint is written. The file is deleted once the scan completes.
+     * <p>
+     * The point set itself is not persisted; it is rebuilt in {@code O(n)} on
+     * resume, which is negligible next to the {@code O(n^2)} scan.
+     *
+     * @param points         array of points where {@code points[i] = {x, y}}
+     * @param checkpointFile file to resume from and to persist progress to
+     * @param interval       minimum wall-clock time between two checkpoint writes
+     * @return number of distinct squares
+     * @throws IOException           if the checkpoint cannot be read or written
+     * @throws IllegalStateException if {@code checkpointFile} was taken over a
+     *                               different input
+     */
+    public int countSquares(int[][] points, Path checkpointFile, Duration interval)
+            throws IOException {
+        int length = points.length;
+        long fingerprint = ScanCheckpoint.fingerprint(points);
 
-                long p3 = key(x3, y3);
-                long p4 = key(x4, y4);
+        int start = 0;
+        long count = 0;
 
-                if (set.contains(p3) && set.contains(p4)) count++;
+        if (Files.exists(checkpointFile)) {
+            ScanCheckpoint checkpoint = ScanCheckpoint.read(checkpointFile);
+            if (!checkpoint.matches(points, fingerprint)) {
+                throw new IllegalStateException("checkpoint " + checkpointFile
+                        + " does not match the input points");
             }
+            start = checkpoint.nextIndex();
+            count = checkpoint.count();
         }
 
+        PrimitiveLongHashSet set = buildSet(points);
+
+        long intervalNanos = interval.toNanos();
+        long lastWrite = System.nanoTime();
+
+        for (int i = start; i < length - 1; i++) {
+            count += scanRow(points, set, i);
+
+            long now = System.nanoTime();
+            if (now - lastWrite >= intervalNanos) {
+                new ScanCheckpoint(fingerprint, length, i + 1, count)
+                        .write(checkpointFile);
+                lastWrite = now;
+            }
+        }
+
+        Files.deleteIfExists(checkpointFile);
+
         return (int) (count / 2);
     }
 
+    /**
+     * Builds the lookup set of all points, scaled by {@code 2}.
+     * <p>
+     * This is the set every {@code countSquares} overload probes; persist it
+     * with {@link PrimitiveLongHashSetSnapshot#write(PrimitiveLongHashSet, java.nio.file.Path)}
+     * to reuse it across runs.
+     *
+     * @param points array of points where {@code points[i] = {x, y}}
+     * @return set of packed, scaled point keys
+     */
+    public static PrimitiveLongHashSet buildSet(int[][] points) {
+        PrimitiveLongHashSet set = new PrimitiveLongHashSet(points.length * 2);
+
+        for (int[] p : points) {
+            set.add(key(2L * p[0], 2L * p[1]));
+        }
+
+        return set;
+    }
+
+    /**
+     * Counts the diagonals {@code (points[i], points[j])} with {@code j > i}
+     * whose two remaining corners are both present in {@code set}.
+     *
+     * @param points array of points where {@code points[i] = {x, y}}
+     * @param set    lookup over packed, scaled point keys
+     * @param i      outer index
+     * @return number of matching diagonals starting at {@code i}
+     */
+    private static long scanRow(int[][] points, LongKeyLookup set, int i) {
+        int length = points.length;
+        long count = 0;
+
+        long x1 = points[i][0], y1 = points[i][1];
+        for (int j = i + 1; j < length; j++) {
+            long x2 = points[j][0], y2 = points[j][1];
+
+            long x3 = (x1 + x2) + (y1 - y2);
+            long y3 = (y1 + y2) + (x2 - x1);
+
+            long x4 = (x1 + x2) - (y1 - y2);
+            long y4 = (y1 + y2) - (x2 - x1);
+
+            long p3 = key(x3, y3);
+            long p4 = key(x4, y4);
+
+            if (set.contains(p3) && set.contains(p4)) count++;
+        }
+
+        return count;
+    }
+
     /**
      * Packs two signed 32-bit integer coordinates into a single 64-bit key.
      * <p>
@@ -0,0 +1,184 @@
+package com.priyakdey;
+
+import java.util.Arrays;
+
+/**
+ * Counts the number of (axis-aligned or rotated) squares that can be formed
+ * from a set of 2D integer points.
+ * <p>
+ * This implementation is the same diagonal-based {@code O(n^2)} approach as
+ * {@link CountSquaresPrimitiveLongSet}, but shrinks the point keys from 64 to
+ * 32 bits via <strong>coordinate rank compression</strong>.
+ * <p>
+ * <strong>Core idea:</strong> in practice far fewer than {@code 2^16} distinct
+ * x and y values occur, so a packed {@code (x, y)} {@code long} wastes half of
+ * every {@code table[]} slot. Instead, the distinct x values are sorted and each
+ * is replaced by its rank {@code rx} in {@code [0, nx)}; likewise for y. A point
+ * is then stored as the dense {@code int} key {@code rx * ny + ry} in a
+ * {@link PrimitiveIntHashSet}, doubling the number of keys per cache line.
+ * <p>
+ * Candidate corners are computed in the usual scaled-by-{@code 2} space. A
+ * candidate can only be a point if its x and y are both known coordinates, so
+ * odd or unknown coordinates are rejected by the rank lookup before the set is
+ * probed at all. Rank lookup is a direct table index when the coordinate span
+ * is small relative to the number of distinct values, and a binary search over
+ * the distinct values otherwise.
+ * <p>
+ * If {@code nx * ny} does not fit in an {@code int}, the points are delegated
+ * to {@link CountSquaresPrimitiveLongSet}.
+ * <p>
+ * Each square is discovered twice (once per diagonal orientation), so the final
+ * result is divided by {@code 2}.
+ * <p>
+ * <strong>Time Complexity:</strong> {@code O(n log n)} preprocessing plus
+ * {@code O(n^2)} expected (hash lookups).<br>
+ * <strong>Space Complexity:</strong> {@code O(n)}; a direct rank table is only
+ * built when its span is at most {@code DENSE_FACTOR * distinct + DENSE_SLACK}.
+ *
+ * @author Priyak Dey
+ */
+public class CountSquaresRankCompressed {
+
+    /**
+     * A direct rank table is built only if the coordinate span
+     * ({@code max - min + 1}) is at most {@code DENSE_FACTOR * distinct + DENSE_SLACK},
+     * keeping it {@code O(distinct)}; sparser axes fall back to binary search.
+     */
+    private static final int DENSE_FACTOR = 4;
+    private static final int DENSE_SLACK = 64;
+
+    private final CountSquaresPrimitiveLongSet fallback =
+            new CountSquaresPrimitiveLongSet();
+
+    /**
+     * Returns the number of distinct squares that can be formed using the
+     * provided points.
+     *
+     * @param points array of points where {@code points[i] = {x, y}}
+     * @return number of distinct squares
+     */
+    public int countSquares(int[][] points) {
+        int length = points.length;
+
+        Ranks xRanks = Ranks.of(points, 0);
+        Ranks yRanks = Ranks.of(points, 1);
+
+        int ny = yRanks.count();
+        if ((long) xRanks.count() * ny > Integer.MAX_VALUE) {
+            return fallback.countSquares(points);
+        }
+
+        PrimitiveIntHashSet set = new PrimitiveIntHashSet(length * 2);
+
+        for (int[] p : points) {
+            set.add(xRanks.rank(2L * p[0]) * ny + yRanks.rank(2L * p[1]));
+        }
+
+        long count = 0;
+
+        for (int i = 0; i < length - 1; i++) {
+            long x1 = points[i][0], y1 = points[i][1];
+            for (int j = i + 1; j < length; j++) {
+                long x2 = points[j][0], y2 = points[j][1];
+
+                int rx3 = xRanks.rank((x1 + x2) + (y1 - y2));
+                if (rx3 < 0) continue;
+                int ry3 = yRanks.rank((y1 + y2) + (x2 - x1));
+                if (ry3 < 0) continue;
+                if (!set.contains(rx3 * ny + ry3)) continue;
+
+                int rx4 = xRanks.rank((x1 + x2) - (y1 - y2));
+                if (rx4 < 0) continue;
+                int ry4 = yRanks.rank((y1 + y2) - (x2 - x1));
+                if (ry4 < 0) continue;
+                if (set.contains(rx4 * ny + ry4)) count++;
+            }
+        }
+
+        return (int) (count / 2);
+    }
+
+    /**
+     * Rank lookup for the distinct values of one coordinate axis.
+     * <p>
+     * Lookups take coordinates in the scaled-by-{@code 2} space used for
+     * candidate corners; odd values can never be a known coordinate and are
+     * rejected immediately.
+     *
+     * @param min    smallest distinct (unscaled) value
+     * @param sorted distinct (unscaled) values in ascending order
+     * @param dense  {@code dense[v - min]} is the rank of {@code v}, or {@code -1};
+     *               {@code null} if the span is too wide for a direct table
+     */
+    private record Ranks(int min, int[] sorted, int[] dense) {
+
+        /**
+         * Collects and ranks the distinct values of {@code points[i][axis]}.
+         *
+         * @param points array of points where {@code points[i] = {x, y}}
+         * @param axis   {@code 0} for x, {@code 1} for y
+         * @return rank lookup for the axis
+         */
+        static Ranks of(int[][] points, int axis) {
+            int[] values = new int[points.length];
+            for (int i = 0; i < points.length; i++) {
+                values[i] = points[i][axis];
+            }
+            Arrays.sort(values);
+
+            int distinct = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (i == 0 || values[i] != values[i - 1]) {
+                    values[distinct++] = values[i];
+                }
+            }
+            int[] sorted = Arrays.copyOf(values, distinct);
+
+            if (distinct == 0) return new Ranks(0, sorted, new int[0]);
+
+            int min = sorted[0];
+            long span = (long) sorted[distinct - 1] - min + 1;
+            if (span > (long) DENSE_FACTOR * distinct + DENSE_SLACK) {
+                return new Ranks(min, sorted, null);
+            }
+
+            int[] dense = new int[(int) span];
+            Arrays.fill(dense, -1);
+            for (int r = 0; r < distinct; r++) {
+                dense[sorted[r] - min] = r;
+            }
+            return new Ranks(min, sorted, dense);
+        }
+
+        /**
+         * Returns the number of distinct values on this axis.
+         *
+         * @return number of ranks
+         */
+        int count() {
+            return sorted.length;
+        }
+
+        /**
+         * Returns the rank of a scaled coordinate.
+         *
+         * @param scaled coordinate scaled by {@code 2}
+         * @return rank in {@code [0, count())}, or {@code -1} if the coordinate
+         * does not occur on this axis
+         */
+        int rank(long scaled) {
+            if ((scaled & 1) != 0) return -1;
+            long v = scaled >> 1;
+
+            if (dense != null) {
+                long offset = v - min;
+                if (offset < 0 || offset >= dense.length) return -1;
+                return dense[(int) offset];
+            }
+
+            if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) return -1;
+            int r = Arrays.binarySearch(sorted, (int) v);
+            return r >= 0 ? r : -1;
+        }
+    }
+}
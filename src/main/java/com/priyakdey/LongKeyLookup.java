@@ -0,0 +1,21 @@
+package com.priyakdey;
+
+/**
+ * Read-only membership test over packed {@code long} point keys.
+ * <p>
+ * Lets the scan in {@link CountSquaresPrimitiveLongSet} probe either a freshly
+ * built {@link PrimitiveLongHashSet} or a memory-mapped
+ * {@link PrimitiveLongHashSetSnapshot} through the same code path.
+ *
+ * @author Priyak Dey
+ */
+interface LongKeyLookup {
+
+    /**
+     * Checks whether {@code key} is present.
+     *
+     * @param key the key to test
+     * @return {@code true} if present, {@code false} otherwise
+     */
+    boolean contains(long key);
+}
@@ -19,9 +19,9 @@
  *
  * @author Priyak Dey
  */
-public class PrimitiveLongHashSet {
-    private static final byte EMPTY = 0;
-    private static final byte FULL = 1;
+public class PrimitiveLongHashSet implements LongKeyLookup {
+    static final byte EMPTY = 0;
+    static final byte FULL = 1;
 
     private long[] table;
     private byte[] states;
@@ -91,6 +91,7 @@ public boolean add(long key) {
      * @param key the key to test
      * @return {@code true} if present, {@code false} otherwise
      */
+    @Override
     public boolean contains(long key) {
         int idx = findSlot(key);
         return states[idx] == FULL;
@@ -105,6 +106,33 @@ public int size() {
         return size;
     }
 
+    /**
+     * Returns the backing key table. Exposed for {@link PrimitiveLongHashSetSnapshot}.
+     *
+     * @return backing key table; must not be modified
+     */
+    long[] table() {
+        return table;
+    }
+
+    /**
+     * Returns the backing slot states. Exposed for {@link PrimitiveLongHashSetSnapshot}.
+     *
+     * @return backing slot states; must not be modified
+     */
+    byte[] states() {
+        return states;
+    }
+
+    /**
+     * Returns the load factor this set was created with.
+     *
+     * @return load factor in {@code (0, 1)}
+     */
+    float loadFactor() {
+        return loadFactor;
+    }
+
     /**
      * Initializes internal arrays and derived fields for the given capacity.
      * <p>
@@ -181,7 +209,7 @@ private void rehash(int newCapacity) {
      * @param z 64-bit input value
      * @return mixed 32-bit hash
      */
-    private static int mix64to32(long z) {
+    static int mix64to32(long z) {
         z ^= (z >>> 33);
         z *= 0xff51afd7ed558ccdL;
         z ^= (z >>> 33);
@@ -0,0 +1,301 @@
+package com.priyakdey;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only, memory-mapped view of a persisted {@link PrimitiveLongHashSet}.
+ * <p>
+ * Building a {@link PrimitiveLongHashSet} from {@code int[][]} costs {@code O(n)}
+ * hashing plus repeated {@code rehash} growth. For large point clouds that never
+ * change, {@link #write(PrimitiveLongHashSet, Path)} persists the already built
+ * table once, and {@link #load(Path)} maps it back so that probing can start
+ * immediately; pages are faulted in lazily by the OS on first access. A loaded
+ * snapshot is passed to
+ * {@link CountSquaresPrimitiveLongSet#countSquares(int[][], PrimitiveLongHashSetSnapshot)}
+ * in place of the set that engine would otherwise build.
+ * <p>
+ * The on-disk table is the in-memory table verbatim, so lookups use the same
+ * hash ({@link PrimitiveLongHashSet#mix64to32(long)}) and linear probing as the
+ * original set.
+ * <p>
+ * Snapshots are long-lived files reused across runs, so the header carries an
+ * order-independent {@link Fingerprint} of the stored keys. Callers compare it
+ * against the keys they are about to probe for, via
+ * {@link #matches(Fingerprint, int)}, and refuse stale snapshots.
+ * <p>
+ * <strong>File format</strong> (little-endian):
+ * <pre>{@code
+ * int    magic       'CSQS'
+ * int    version     2
+ * int    capacity    power of two
+ * int    size        number of keys
+ * float  loadFactor
+ * int    reserved    0, pads the header to 8-byte alignment
+ * long   keysLo      first lane of the key fingerprint
+ * long   keysHi      second lane of the key fingerprint
+ * long[] table       capacity entries
+ * byte[] states      capacity entries, EMPTY (0) or FULL (1)
+ * }</pre>
+ * A single {@link MappedByteBuffer} is limited to {@code Integer.MAX_VALUE}
+ * bytes, which bounds the capacity to {@code 2^27} slots.
+ *
+ * @author Priyak Dey
+ */
+public final class PrimitiveLongHashSetSnapshot implements LongKeyLookup {
+    private static final int MAGIC = 0x43535153; // "CSQS"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 40;
+
+    private final LongBuffer table;
+    private final ByteBuffer states;
+    private final int mask;
+    private final int size;
+    private final float loadFactor;
+    private final Fingerprint fingerprint;
+
+    private PrimitiveLongHashSetSnapshot(LongBuffer table, ByteBuffer states,
+                                         int size, float loadFactor,
+                                         Fingerprint fingerprint) {
+        this.table = table;
+        this.states = states;
+        this.mask = states.capacity() - 1;
+        this.size = size;
+        this.loadFactor = loadFactor;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Persists {@code set} to {@code file}.
+     * <p>
+     * The snapshot is written to a sibling temporary file and atomically moved
+     * over {@code file}, so readers never observe a partially written snapshot.
+     *
+     * @param set  the set to persist
+     * @param file destination file
+     * @throws IOException              if the snapshot cannot be written
+     * @throws IllegalArgumentException if the set is too large to be mapped back
+     */
+    public static void write(PrimitiveLongHashSet set, Path file) throws IOException {
+        long[] table = set.table();
+        byte[] states = set.states();
+        Fingerprint fp = Fingerprint.of(set);
+        long bytes = fileSize(table.length);
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("set too large to snapshot: capacity "
+                    + table.length);
+        }
+
+        Path dir = file.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+                buf.order(ByteOrder.LITTLE_ENDIAN);
+                buf.putInt(MAGIC)
+                        .putInt(VERSION)
+                        .putInt(table.length)
+                        .putInt(set.size())
+                        .putFloat(set.loadFactor())
+                        .putInt(0)
+                        .putLong(fp.lo())
+                        .putLong(fp.hi());
+                buf.asLongBuffer().put(table);
+                buf.position(HEADER_BYTES + table.length * Long.BYTES);
+                buf.put(states);
+                buf.force();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Maps a snapshot previously written by {@link #write(PrimitiveLongHashSet, Path)}.
+     * <p>
+     * Only the header is read eagerly; the table itself is accessed through the
+     * mapping, so the cost of this call is independent of the set size.
+     *
+     * @param file snapshot file
+     * @return a read-only set backed by the mapped file
+     * @throws IOException if the file cannot be mapped or is not a valid snapshot
+     */
+    public static PrimitiveLongHashSetSnapshot load(Path file) throws IOException {
+        MappedByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = ch.size();
+            if (bytes < HEADER_BYTES || bytes > Integer.MAX_VALUE) {
+                throw new IOException("not a snapshot: " + file);
+            }
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+        }
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+
+        int magic = buf.getInt();
+        int version = buf.getInt();
+        if (magic != MAGIC || version != VERSION) {
+            throw new IOException("not a v" + VERSION + " snapshot: " + file);
+        }
+        int capacity = buf.getInt();
+        int size = buf.getInt();
+        float loadFactor = buf.getFloat();
+        buf.getInt(); // reserved
+        Fingerprint fp = new Fingerprint(buf.getLong(), buf.getLong());
+        if (capacity < 2 || Integer.bitCount(capacity) != 1
+                || size < 0 || size >= capacity
+                || buf.capacity() != fileSize(capacity)) {
+            throw new IOException("corrupt snapshot: " + file);
+        }
+
+        int statesAt = HEADER_BYTES + capacity * Long.BYTES;
+        LongBuffer table = buf.slice(HEADER_BYTES, capacity * Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asLongBuffer();
+        ByteBuffer states = buf.slice(statesAt, capacity);
+
+        return new PrimitiveLongHashSetSnapshot(table, states, size, loadFactor, fp);
+    }
+
+    /**
+     * Checks whether {@code key} is present in the snapshot.
+     * <p>
+     * The header guarantees {@code size < capacity}, but the state bytes
+     * themselves are not scanned on load. Probing is therefore bounded to
+     * {@code capacity} slots so that a corrupt file without any {@code EMPTY}
+     * slot cannot loop forever.
+     *
+     * @param key the key to test
+     * @return {@code true} if present, {@code false} otherwise
+     */
+    @Override
+    public boolean contains(long key) {
+        int idx = PrimitiveLongHashSet.mix64to32(key) & mask;
+
+        for (int probes = 0; probes <= mask; probes++) {
+            if (states.get(idx) == PrimitiveLongHashSet.EMPTY) return false;
+            if (table.get(idx) == key) return true;
+            idx = (idx + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of keys stored in the snapshot.
+     *
+     * @return size of the set the snapshot was taken from
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the load factor of the set the snapshot was taken from.
+     *
+     * @return load factor in {@code (0, 1)}
+     */
+    public float loadFactor() {
+        return loadFactor;
+    }
+
+    /**
+     * Returns {@code true} if this snapshot holds exactly the keys described by
+     * {@code keys} and {@code count}.
+     *
+     * @param keys  fingerprint of the keys the caller is about to probe for
+     * @param count number of those keys
+     * @return whether the snapshot was taken from the same keys
+     */
+    public boolean matches(Fingerprint keys, int count) {
+        return size == count && fingerprint.equals(keys);
+    }
+
+    /**
+     * Returns the size in bytes of a snapshot file for the given table capacity.
+     *
+     * @param capacity table capacity
+     * @return file size in bytes
+     */
+    private static long fileSize(int capacity) {
+        return HEADER_BYTES + (long) capacity * (Long.BYTES + 1);
+    }
+
+    /**
+     * Order-independent fingerprint of a set of {@code long} keys.
+     * <p>
+     * Each key is fed through two differently seeded mixers whose outputs are
+     * summed, giving a 128-bit hash that is independent of insertion order and
+     * of the table layout. It is accumulated in a single {@code O(n)} pass, either
+     * over a built set with {@link #of(PrimitiveLongHashSet)} or over raw keys
+     * with {@link #mixLo(long)} and {@link #mixHi(long)}.
+     *
+     * @param lo sum of {@link #mixLo(long)} over all keys
+     * @param hi sum of {@link #mixHi(long)} over all keys
+     */
+    public record Fingerprint(long lo, long hi) {
+
+        /**
+         * Fingerprints the keys stored in {@code set}.
+         *
+         * @param set the set to fingerprint
+         * @return fingerprint of its keys
+         */
+        public static Fingerprint of(PrimitiveLongHashSet set) {
+            long[] table = set.table();
+            byte[] states = set.states();
+            long lo = 0, hi = 0;
+            for (int i = 0; i < table.length; i++) {
+                if (states[i] == PrimitiveLongHashSet.FULL) {
+                    lo += mixLo(table[i]);
+                    hi += mixHi(table[i]);
+                }
+            }
+            return new Fingerprint(lo, hi);
+        }
+
+        /**
+         * Returns the contribution of {@code key} to {@link #lo()}.
+         *
+         * @param key packed key
+         * @return mixed value
+         */
+        public static long mixLo(long key) {
+            return mix64(key);
+        }
+
+        /**
+         * Returns the contribution of {@code key} to {@link #hi()}.
+         *
+         * @param key packed key
+         * @return mixed value
+         */
+        public static long mixHi(long key) {
+            return mix64(key ^ 0x9E3779B97F4A7C15L);
+        }
+
+        /**
+         * MurmurHash3 {@code fmix64} finalizer.
+         *
+         * @param z 64-bit input value
+         * @return mixed 64-bit value
+         */
+        private static long mix64(long z) {
+            z ^= (z >>> 33);
+            z *= 0xff51afd7ed558ccdL;
+            z ^= (z >>> 33);
+            z *= 0xc4ceb9fe1a85ec53L;
+            z ^= (z >>> 33);
+            return z;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.priyakdey;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Progress snapshot of the {@code O(n^2)} pair scan in
+ * {@link CountSquaresPrimitiveLongSet}.
+ * <p>
+ * The outer loop is processed strictly in order, so the completed work is
+ * always a single prefix of outer indices {@code [0, nextIndex)}. Together with
+ * the partial pair count for that prefix and a fingerprint of the input, this is
+ * enough to resume the scan at {@code i = nextIndex} after a restart.
+ * <p>
+ * <strong>File format</strong> (big-endian, {@value #SIZE_BYTES} bytes):
+ * <pre>{@code
+ * int  magic        'CSQC'
+ * int  version      1
+ * long fingerprint  see fingerprint(int[][])
+ * int  length       number of input points
+ * int  nextIndex    first outer index not yet scanned
+ * long count        raw pair count (each square counted twice)
+ * }</pre>
+ * Writes go to a sibling temporary file, which is forced to disk and then
+ * atomically moved over the target. A process killed mid-write therefore never
+ * leaves a torn checkpoint behind, and after a node crash the file holds either
+ * the previous or the new checkpoint, as far as the filesystem makes the rename
+ * itself durable.
+ *
+ * @param fingerprint order-sensitive fingerprint of the input points
+ * @param length      number of input points
+ * @param nextIndex   first outer index that has not been scanned yet
+ * @param count       raw pair count accumulated over {@code [0, nextIndex)}
+ * @author Priyak Dey
+ */
+public record ScanCheckpoint(long fingerprint, int length, int nextIndex,
+                             long count) {
+
+    private static final int MAGIC = 0x43535143; // "CSQC"
+    private static final int VERSION = 1;
+
+    static final int SIZE_BYTES = 4 + 4 + 8 + 4 + 4 + 8;
+
+    /**
+     * Computes an order-sensitive fingerprint of the input points.
+     * <p>
+     * The checkpoint records outer <em>indices</em>, so a permutation of the
+     * same points is a different input as far as resuming is concerned and must
+     * yield a different fingerprint.
+     *
+     * @param points array of points where {@code points[i] = {x, y}}
+     * @return 64-bit fingerprint of {@code points}
+     */
+    public static long fingerprint(int[][] points) {
+        long h = mix64(points.length);
+        for (int[] p : points) {
+            long packed = ((long) p[0] << 32) ^ (p[1] & 0xFFFFFFFFL);
+            h = mix64(h ^ packed) + 0x9E3779B97F4A7C15L;
+        }
+        return h;
+    }
+
+    /**
+     * Reads a checkpoint from {@code file}.
+     *
+     * @param file checkpoint file
+     * @return the decoded checkpoint
+     * @throws IOException if the file cannot be read, or is not a valid checkpoint
+     */
+    public static ScanCheckpoint read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file);
+             DataInputStream data = new DataInputStream(in)) {
+            int magic = data.readInt();
+            int version = data.readInt();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("not a v" + VERSION + " checkpoint: " + file);
+            }
+            long fingerprint = data.readLong();
+            int length = data.readInt();
+            int nextIndex = data.readInt();
+            long count = data.readLong();
+            if (length < 0 || nextIndex < 0 || nextIndex > length || count < 0) {
+                throw new IOException("corrupt checkpoint: " + file);
+            }
+            return new ScanCheckpoint(fingerprint, length, nextIndex, count);
+        }
+    }
+
+    /**
+     * Atomically replaces {@code file} with this checkpoint.
+     * <p>
+     * The temporary file's contents are forced to disk before the move, so a
+     * rename that survives a crash never points at an empty or short file.
+     *
+     * @param file checkpoint file
+     * @throws IOException if the checkpoint cannot be written
+     */
+    public void write(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            ByteBuffer buf = ByteBuffer.allocate(SIZE_BYTES)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(fingerprint)
+                    .putInt(length)
+                    .putInt(nextIndex)
+                    .putLong(count)
+                    .flip();
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buf.hasRemaining()) ch.write(buf);
+                ch.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Returns {@code true} if this checkpoint was taken over {@code points}.
+     *
+     * @param points      array of points where {@code points[i] = {x, y}}
+     * @param fingerprint precomputed {@link #fingerprint(int[][])} of {@code points}
+     * @return whether this checkpoint can be used to resume a scan of {@code points}
+     */
+    boolean matches(int[][] points, long fingerprint) {
+        return this.length == points.length && this.fingerprint == fingerprint;
+    }
+
+    /**
+     * MurmurHash3 {@code fmix64} finalizer.
+     *
+     * @param z 64-bit input value
+     * @return mixed 64-bit value
+     */
+    private static long mix64(long z) {
+        z ^= (z >>> 33);
+        z *= 0xff51afd7ed558ccdL;
+        z ^= (z >>> 33);
+        z *= 0xc4ceb9fe1a85ec53L;
+        z ^= (z >>> 33);
+        return z;
+    }
+}